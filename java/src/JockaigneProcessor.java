@@ -1,20 +1,51 @@
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import javax.management.NotificationEmitter;
 
 import jargon.Charact;
 import jargon.Script;
@@ -38,6 +69,44 @@ public final class JockaigneProcessor {
 
     private static final Map<String, Dictionary> LANGUAGE_DICTIONARIES = loadLanguageDictionaries();
 
+    /**
+     * OCR confusions, derived from replaceDigitLookalikes and normalizeLigatures, in both directions: the blind rules
+     * also fire where the original was right (e.g. "modern" -> "modem"), so the reverse direction repairs those.
+     * Lower weight = more frequent Tesseract confusion.
+     */
+    private static final List<Confusion> OCR_CONFUSIONS = List.of(
+        new Confusion("1", "l", 0.3), new Confusion("l", "1", 0.3),
+        new Confusion("0", "o", 0.3), new Confusion("o", "0", 0.3),
+        new Confusion("rn", "m", 0.4), new Confusion("m", "rn", 0.4),
+        new Confusion("vv", "w", 0.4), new Confusion("w", "vv", 0.4),
+        new Confusion("5", "s", 0.5), new Confusion("s", "5", 0.5),
+        new Confusion("6", "g", 0.5), new Confusion("g", "6", 0.5),
+        new Confusion("8", "b", 0.5), new Confusion("b", "8", 0.5)
+    );
+
+    // Upper bounds for the confusion search: total weight per candidate and number of expansions per token
+    private static final double CONFUSION_MAX_COST = 1.0;
+    private static final int CONFUSION_MAX_EXPANSIONS = 64;
+
+    // Thresholds of the quality gate (see assessQuality)
+    private static final double QUALITY_MIN_CONFIDENCE = 85.0;
+    private static final double QUALITY_MIN_PRINTABLE_RATIO = 0.98;
+    private static final double QUALITY_MIN_ASCII_RATIO = 0.9;
+    private static final double QUALITY_MIN_DICTIONARY_HIT_RATE = 0.85;
+    private static final int QUALITY_MIN_SAMPLE_WORDS = 3;
+    private static final int QUALITY_SAMPLE_WORDS = 16;
+
+    // Random strings compared by --check-ascii (fixed seed, so a reported mismatch can be reproduced)
+    private static final long ASCII_CHECK_SEED = 0x4A6F636BL;
+    private static final int ASCII_CHECK_SAMPLES = 20_000;
+    private static final int ASCII_CHECK_MAX_LENGTH = 64;
+
+    // Share of the max heap (-Xmx, set by the Electron launcher) the result cache may occupy
+    private static final double RESULT_CACHE_HEAP_SHARE = 0.1;
+
+    // Old generation occupancy after a GC (share of its max) at which caches are shed
+    private static final double MEMORY_PRESSURE_THRESHOLD = 0.8;
+
     private JockaigneProcessor() {
     }
 
@@ -46,16 +115,36 @@ public final class JockaigneProcessor {
     // ---------------------------------------------------------------------
 
     public static void main(String[] args) throws IOException {
+        ProcessorOptions options;
+        try {
+            options = ProcessorOptions.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println("[JockaigneProcessor] " + ex.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        // Maintenance check: the ASCII fast path must agree with the Script pipeline (exit status 1 if it does not)
+        if (options.asciiCheckSamples() > 0) {
+            System.exit(checkAsciiFastPath(options.asciiCheckSamples()) ? 0 : 1);
+            return;
+        }
+
+        // Offline batch mode over archived OCR dumps instead of the stdin loop
+        if (options.batchInput() != null) {
+            runBatch(options);
+            return;
+        }
 
-        // Reads lines of JSON from standard input
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+        // Reads lines of JSON from standard input and hands them to the worker pool
+        // The pool shares the (read-only) dictionaries between all workers, so one JVM serves every feed
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+             ProcessorPool pool = new ProcessorPool(options.workers(), options.ordered(), System.out)) {
             String line;
 
-            // While there are lines to read -> Process each line
+            // While there are lines to read -> Dispatch each line
             while ((line = reader.readLine()) != null) {
-                InputPayload payload = parsePayload(line);
-                CorrectionResult result = process(payload);
-                System.out.println(result.toJson());
+                pool.submit(parsePayload(line));
             }
         }
     }
@@ -68,13 +157,13 @@ public final class JockaigneProcessor {
 
         // Handles null or empty input
         if (rawLine == null) {
-            return new InputPayload("", List.of());
+            return InputPayload.plain("");
         }
 
         // Trims whitespace and checks if the line starts with '{'
         String trimmed = rawLine.trim();
         if (!trimmed.startsWith("{")) {
-            return new InputPayload(rawLine, List.of());
+            return InputPayload.plain(rawLine);
         }
 
         // Tries to parse the trimmed JSON using DataNote
@@ -83,7 +172,7 @@ public final class JockaigneProcessor {
 
             // If the parsing fails or the note is null, return the raw line with empty languages
             if (note == null) {
-                return new InputPayload(rawLine, List.of());
+                return InputPayload.plain(rawLine);
             }
 
             // Extracts the text and languages from the parsed DataNote
@@ -92,12 +181,23 @@ public final class JockaigneProcessor {
             // Extract languages from meta.languages if available
             List<String> languages = extractLanguages(note);
 
+            // Request id (echoed back in the response) and meta.session (requests of one session stay in order)
+            Object id = extractId(note);
+            String session = extractSession(note);
+
+            // OCR confidence reported by Tesseract (meta.confidence), used by the quality gate
+            Double confidence = extractConfidence(note);
+
+            // Control requests such as {"command": "stats"} carry no text
+            DataNote commandNode = note.at("command");
+            String command = commandNode != null ? commandNode.asString(null) : null;
+
             // Returns the extracted text and languages as an InputPayload
-            return new InputPayload(text, languages);
+            return new InputPayload(text, languages, id, session, confidence, command);
 
         // If the parsing throws an exception, returns the raw line with empty languages as Input Payload
         } catch (RuntimeException ex) {
-            return new InputPayload(rawLine, List.of());
+            return InputPayload.plain(rawLine);
         }
     }
 
@@ -107,6 +207,38 @@ public final class JockaigneProcessor {
         return textNode != null ? textNode.asString(fallback) : fallback;
     }
 
+    // Helper method to extract the request id, keeping numbers as numbers so the response echoes the same JSON type
+    private static Object extractId(DataNote note) {
+        DataNote idNode = note.at("id");
+        if (idNode == null || idNode.isNull()) {
+            return null;
+        }
+        Number numeric = idNode.asNumber(null);
+        return numeric != null ? numeric : idNode.asString(null);
+    }
+
+    // Helper method to extract meta.session from DataNote, null if the request belongs to no session
+    private static String extractSession(DataNote note) {
+        DataNote meta = note.at("meta");
+        DataNote sessionNode = meta != null ? meta.at("session") : null;
+        if (sessionNode == null) {
+            return null;
+        }
+        String session = sessionNode.asString(null);
+        return session == null || session.isBlank() ? null : session;
+    }
+
+    // Helper method to extract meta.confidence from DataNote, null if absent or not a number
+    private static Double extractConfidence(DataNote note) {
+        DataNote meta = note.at("meta");
+        DataNote confidenceNode = meta != null ? meta.at("confidence") : null;
+        if (confidenceNode == null || confidenceNode.isNull()) {
+            return null;
+        }
+        Number confidence = confidenceNode.asNumber(null);
+        return confidence != null ? confidence.doubleValue() : null;
+    }
+
     // Helper method to extract languages from DataNote (used above)
     private static List<String> extractLanguages(DataNote note) {
         DataNote meta = note.at("meta");
@@ -148,24 +280,38 @@ public final class JockaigneProcessor {
         }
 
         // Defines a Script for the original input text
+        // Unpooled on purpose: Script.of would intern every distinct frame in Jockaigne's pool for the life of the JVM
         Script original;
         try {
-            original = Script.of(input);
+            original = new Script(input);
         } catch (IllegalArgumentException ex) {
             return CorrectionResult.fallback(input);
         }
 
-        // Runs the normalization and correction pipeline (normalise, applyCorrections, trimWhitespace)
-        Script cleaned = normalize(original);
-        cleaned = applyCorrections(cleaned);
-        cleaned = trimWhitespace(cleaned);
-
-
         // Selects the appropriate word dictionary based on the provided languages
         // We use the 'wordfreq' corpora for English and German, falling back to a small custom curated list
         // https://github.com/rspeer/wordfreq
         Dictionary dictionary = selectDictionary(payload.languages());
 
+        // Runs the normalization and correction pipeline (normalise, applyCorrections, trimWhitespace)
+        // Plain ASCII input (the common case for slides) takes the byte-level fast path with identical results
+        Script cleaned;
+        if (isAscii(input)) {
+            cleaned = new Script(cleanAscii(input));
+        } else {
+            cleaned = normalize(original);
+            cleaned = applyCorrections(cleaned);
+            cleaned = trimWhitespace(cleaned);
+        }
+
+        // Cheap pre-check: confident OCR of printable, mostly known words only needs the cleaning pass
+        QualityCheck quality = assessQuality(input, cleaned, payload.confidence(), dictionary);
+
+        // Fast tier: skips the suggestion search and the (Levenshtein based) diagnostics
+        if (quality.tier() == Tier.FAST) {
+            return new CorrectionResult(cleaned.toString(), original.toString(), null, List.of(), quality);
+        }
+
         // Suggests candidate corrections based on the cleaned text and the selected dictionary
         List<String> suggestions = suggestCandidates(cleaned, dictionary);
 
@@ -173,7 +319,102 @@ public final class JockaigneProcessor {
         Diagnostics diagnostics = Diagnostics.collect(original, cleaned);
 
         // Returns the correction result with the cleaned text, original text as well as diagnostics and the suggestions
-        return new CorrectionResult(cleaned.toString(), original.toString(), diagnostics, suggestions);
+        return new CorrectionResult(cleaned.toString(), original.toString(), diagnostics, suggestions, quality);
+    }
+
+    // ---------------------------------------------------------------------
+    // Quality gate
+    // ---------------------------------------------------------------------
+
+    /**
+     * Decides whether a frame needs the full pipeline. A frame takes the fast tier only if Tesseract reported a high
+     * confidence, its visible characters are printable and mostly ASCII (the RatioStats measures, computed on the raw
+     * string), and a sample of its cleaned words hits the dictionary. Frames without confidence always take the full
+     * tier.
+     */
+    private static QualityCheck assessQuality(String input, Script cleaned, Double confidence, Dictionary dictionary) {
+        if (confidence == null) {
+            return QualityCheck.full("no-confidence");
+        }
+        if (!isConfident(confidence)) {
+            return QualityCheck.full("low-confidence");
+        }
+
+        // Ratios over visible characters; line breaks and tabs are layout, not OCR noise
+        int visible = 0;
+        int printable = 0;
+        int ascii = 0;
+        for (int i = 0; i < input.length(); ) {
+            int codePoint = input.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isWhitespace(codePoint)) {
+                continue;
+            }
+            visible++;
+            if (isPrintableCodePoint(codePoint)) {
+                printable++;
+            }
+            if (codePoint >= 0x20 && codePoint <= 0x7F) {
+                ascii++;
+            }
+        }
+        double printableRatio = visible == 0 ? 1.0 : (double) printable / visible;
+        double asciiRatio = visible == 0 ? 1.0 : (double) ascii / visible;
+        if (printableRatio < QUALITY_MIN_PRINTABLE_RATIO || asciiRatio < QUALITY_MIN_ASCII_RATIO) {
+            return new QualityCheck(Tier.FULL, "unusual-characters", printableRatio, asciiRatio, null);
+        }
+
+        Double hitRate = sampleDictionaryHitRate(cleaned, dictionary);
+        if (hitRate == null || hitRate < QUALITY_MIN_DICTIONARY_HIT_RATE) {
+            return new QualityCheck(Tier.FULL, hitRate == null ? "too-few-words" : "unknown-words",
+                printableRatio, asciiRatio, hitRate);
+        }
+        return new QualityCheck(Tier.FAST, "clean", printableRatio, asciiRatio, hitRate);
+    }
+
+    // True if the OCR confidence (Tesseract, 0-100) clears the fast tier threshold
+    private static boolean isConfident(Double confidence) {
+        return confidence != null && confidence >= QUALITY_MIN_CONFIDENCE;
+    }
+
+    // Same notion of printable as Charact.isPrintable: a space, or anything outside the Unicode Other/Separator classes
+    private static boolean isPrintableCodePoint(int codePoint) {
+        if (codePoint == ' ') {
+            return true;
+        }
+        return switch (Character.getType(codePoint)) {
+            case Character.CONTROL, Character.FORMAT, Character.PRIVATE_USE, Character.SURROGATE, Character.UNASSIGNED,
+                 Character.SPACE_SEPARATOR, Character.LINE_SEPARATOR, Character.PARAGRAPH_SEPARATOR -> false;
+            default -> true;
+        };
+    }
+
+    /**
+     * Looks up an evenly spaced sample of the cleaned word tokens in the dictionary. These are the tokens
+     * suggestCandidates would look at (isWordToken), so OCR damage such as "qu1ck" counts as a miss instead of being
+     * left out of the sample. Returns the share of known words, or null if the text has too few words to judge.
+     */
+    private static Double sampleDictionaryHitRate(Script cleaned, Dictionary dictionary) {
+        List<Script> words = new ArrayList<>();
+        for (Script token : cleaned.split()) {
+            if (isWordToken(token)) {
+                words.add(token);
+            }
+        }
+        if (words.size() < QUALITY_MIN_SAMPLE_WORDS) {
+            return null;
+        }
+
+        // Spreads the sample over the whole frame (first word to near the last); only sampled words are lowercased
+        int sampled = Math.min(words.size(), QUALITY_SAMPLE_WORDS);
+        int hits = 0;
+        for (int i = 0; i < sampled; i++) {
+            Script word = words.get(i * words.size() / sampled);
+            if (dictionary.lookup().contains(word.toLower(Locale.ROOT))) {
+                hits++;
+            }
+        }
+        return (double) hits / sampled;
     }
 
     // ---------------------------------------------------------------------
@@ -286,6 +527,225 @@ public final class JockaigneProcessor {
         return script.filter(Charact::isSpace, true, true, true);
     }
 
+    // ---------------------------------------------------------------------
+    // ASCII fast path
+    // ---------------------------------------------------------------------
+
+    /**
+     * Byte-level twin of normalize, applyCorrections and trimWhitespace for pure ASCII input.
+     * NFKC and the Unicode space mapping are no-ops on ASCII, so only the compaction, control character removal and
+     * the correction rules are left. Each rule below is one pass over the output of the previous one, exactly like
+     * the chained Script.replace calls, so the result is identical to the general path.
+     * Any change to those rules has to be mirrored here; checkAsciiFastPath (--check-ascii) verifies that both agree.
+     */
+    private static String cleanAscii(String input) {
+        byte[] text = input.getBytes(StandardCharsets.US_ASCII);
+        text = normalizeAscii(text);
+
+        // replaceDigitLookalikes
+        text = replaceAsciiInContext(text, "1", 'l', (t, i) -> isAsciiLetterAt(t, i - 1));
+        text = replaceAsciiInContext(text, "1", 'l', (t, i) -> isAsciiLetterAt(t, i + 1));
+        text = replaceAsciiInContext(text, "0", 'o', (t, i) -> isAsciiLetterAt(t, i - 1) && isAsciiLetterAt(t, i + 1));
+        text = replaceAsciiInContext(text, "0", 'O', (t, i) -> isAsciiBoundaryAt(t, i) && isAsciiLetterAt(t, i + 1));
+        text = replaceAsciiInContext(text, "5", 'S', (t, i) -> isAsciiLetterAt(t, i - 1));
+        text = replaceAsciiInContext(text, "6", 'G', (t, i) -> isAsciiLetterAt(t, i - 1));
+        text = replaceAsciiInContext(text, "8", 'B', (t, i) -> isAsciiLetterAt(t, i - 1));
+
+        // normalizeTypographicQuotes (only the backtick is ASCII)
+        text = replaceAsciiInContext(text, "`", '\'', (t, i) -> true);
+
+        // normalizeLigatures (only "rn" and "vv" are ASCII)
+        text = replaceAsciiPair(text, 'r', 'n', 'm');
+        text = replaceAsciiPair(text, 'v', 'v', 'w');
+
+        // resolveHyphenationAndNumericMixups
+        text = joinAsciiHyphenation(text);
+        text = replaceAsciiInContext(text, "l", '1', (t, i) -> isAsciiDigitAt(t, i - 1) && isAsciiDigitAt(t, i + 1));
+        text = replaceAsciiInContext(text, "Oo", '0', (t, i) -> isAsciiDigitAt(t, i - 1) && isAsciiDigitAt(t, i + 1));
+        text = replaceAsciiInContext(text, "I|", 'l',
+            (t, i) -> isAsciiBoundaryAt(t, i) && isAsciiLowerAt(t, i + 1) && isAsciiLowerAt(t, i + 2));
+
+        return trimAsciiWhitespace(text);
+    }
+
+    // Returns true if every char is 7-bit ASCII, i.e. the input qualifies for the fast path
+    private static boolean isAscii(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (input.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Mirrors collapseSpaceRuns followed by dropNonPrintableCharacters in a single pass
+    // Spaces are compacted against the previous input byte, so a control character between two spaces still leaves both
+    private static byte[] normalizeAscii(byte[] text) {
+        byte[] out = new byte[text.length];
+        int length = 0;
+        for (int i = 0; i < text.length; i++) {
+            byte b = text[i];
+            boolean repeatedSpace = b == ' ' && i > 0 && text[i - 1] == ' ';
+            boolean control = b < 0x20 || b == 0x7F;
+            if (!repeatedSpace && !control) {
+                out[length++] = b;
+            }
+        }
+        return Arrays.copyOf(out, length);
+    }
+
+    // Replaces every target byte whose surroundings satisfy the context (the lookbehind/lookahead of the regex rule)
+    private static byte[] replaceAsciiInContext(byte[] text, String targets, char replacement, AsciiContext context) {
+        byte[] out = null;
+        for (int i = 0; i < text.length; i++) {
+            if (targets.indexOf(text[i]) >= 0 && context.test(text, i)) {
+                if (out == null) {
+                    out = text.clone();
+                }
+                out[i] = (byte) replacement;
+            }
+        }
+        return out != null ? out : text;
+    }
+
+    // Replaces non-overlapping occurrences of a two byte sequence from left to right, like Script.replace(Script, Script)
+    private static byte[] replaceAsciiPair(byte[] text, char first, char second, char replacement) {
+        byte[] out = new byte[text.length];
+        int length = 0;
+        int i = 0;
+        while (i < text.length) {
+            if (text[i] == first && i + 1 < text.length && text[i + 1] == second) {
+                out[length++] = (byte) replacement;
+                i += 2;
+            } else {
+                out[length++] = text[i++];
+            }
+        }
+        return length == text.length ? text : Arrays.copyOf(out, length);
+    }
+
+    // Removes "-" plus following whitespace between two letters, i.e. "(?<=\p{L})-\s+(?=\p{L})"
+    private static byte[] joinAsciiHyphenation(byte[] text) {
+        byte[] out = new byte[text.length];
+        int length = 0;
+        int i = 0;
+        while (i < text.length) {
+            if (text[i] == '-' && isAsciiLetterAt(text, i - 1)) {
+                int end = i + 1;
+                while (end < text.length && isAsciiRegexSpace(text[end])) {
+                    end++;
+                }
+                if (end > i + 1 && isAsciiLetterAt(text, end)) {
+                    i = end;
+                    continue;
+                }
+            }
+            out[length++] = text[i++];
+        }
+        return length == text.length ? text : Arrays.copyOf(out, length);
+    }
+
+    // Mirrors trimWhitespace: strips leading and trailing Java whitespace
+    private static String trimAsciiWhitespace(byte[] text) {
+        int start = 0;
+        int end = text.length;
+        while (end > 0 && Character.isWhitespace(text[end - 1])) {
+            end--;
+        }
+        while (start < end && Character.isWhitespace(text[start])) {
+            start++;
+        }
+        return new String(text, start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    // ASCII equivalents of the regex classes used by the correction rules (\p{L}, \p{Ll}, \d, \s and the \b word set)
+    private static boolean isAsciiLetterAt(byte[] text, int index) {
+        if (index < 0 || index >= text.length) {
+            return false;
+        }
+        byte b = text[index];
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    private static boolean isAsciiLowerAt(byte[] text, int index) {
+        return index >= 0 && index < text.length && text[index] >= 'a' && text[index] <= 'z';
+    }
+
+    private static boolean isAsciiDigitAt(byte[] text, int index) {
+        return index >= 0 && index < text.length && text[index] >= '0' && text[index] <= '9';
+    }
+
+    private static boolean isAsciiWordAt(byte[] text, int index) {
+        return isAsciiLetterAt(text, index) || isAsciiDigitAt(text, index)
+            || (index >= 0 && index < text.length && text[index] == '_');
+    }
+
+    private static boolean isAsciiBoundaryAt(byte[] text, int index) {
+        return isAsciiWordAt(text, index - 1) != isAsciiWordAt(text, index);
+    }
+
+    private static boolean isAsciiRegexSpace(byte b) {
+        return b == ' ' || (b >= 0x09 && b <= 0x0D);
+    }
+
+    /**
+     * Runs cleanAscii and the Script pipeline (normalize, applyCorrections, trimWhitespace) on the same random ASCII
+     * strings, reports every mismatch and times both paths. cleanAscii mirrors the regex rules by hand, so this has to
+     * pass after any change to a rule (java -cp ... JockaigneProcessor --check-ascii[=N]).
+     * The strings are drawn from the characters the rules react to, with a fixed seed so a failure can be reproduced.
+     */
+    private static boolean checkAsciiFastPath(int samples) {
+        String alphabet = "aeilnorsvwxIOS01568`|-' \t\n\r.,:;()\u0001\u007f";
+        Random random = new Random(ASCII_CHECK_SEED);
+        List<String> inputs = new ArrayList<>(samples);
+        for (int i = 0; i < samples; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(ASCII_CHECK_MAX_LENGTH + 1);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            inputs.add(input.toString());
+        }
+
+        // Unpooled Scripts, so the check does not fill Jockaigne's pool with junk
+        long scriptStart = System.nanoTime();
+        List<String> expected = new ArrayList<>(samples);
+        for (String input : inputs) {
+            expected.add(trimWhitespace(applyCorrections(normalize(new Script(input)))).toString());
+        }
+        long scriptNanos = System.nanoTime() - scriptStart;
+
+        long fastStart = System.nanoTime();
+        List<String> actual = new ArrayList<>(samples);
+        for (String input : inputs) {
+            actual.add(cleanAscii(input));
+        }
+        long fastNanos = System.nanoTime() - fastStart;
+
+        int mismatches = 0;
+        for (int i = 0; i < samples; i++) {
+            if (!expected.get(i).equals(actual.get(i))) {
+                mismatches++;
+                if (mismatches <= 5) {
+                    Map<String, Object> mismatch = new LinkedHashMap<>();
+                    mismatch.put("input", inputs.get(i));
+                    mismatch.put("script", expected.get(i));
+                    mismatch.put("fast", actual.get(i));
+                    System.out.println("  mismatch:    " + new DataNote(mismatch).asJSON(false));
+                }
+            }
+        }
+
+        double scriptMicros = scriptNanos / 1e3 / samples;
+        double fastMicros = fastNanos / 1e3 / samples;
+        System.out.printf(Locale.ROOT, "[JockaigneProcessor] ASCII fast path check: %d samples, %d mismatches%n",
+            samples, mismatches);
+        System.out.printf(Locale.ROOT, "  script path: %.1f us/sample%n", scriptMicros);
+        System.out.printf(Locale.ROOT, "  fast path:   %.1f us/sample (%.1fx)%n",
+            fastMicros, scriptMicros / Math.max(fastMicros, 1e-9));
+        return mismatches == 0;
+    }
+
     // ---------------------------------------------------------------------
     // Dictionary selection and suggestion logic
     // ---------------------------------------------------------------------
@@ -361,8 +821,8 @@ public final class JockaigneProcessor {
     }
 
     /**
-     * Suggests replacements by walking the Script tokens and comparing them against our dictionary entries using
-     * Levenshtein distance.
+     * Suggests replacements by walking the Script tokens and comparing them against our dictionary entries, first via
+     * the OCR confusion table and then using Levenshtein distance.
      * Levenshtein: https://en.wikipedia.org/wiki/Levenshtein_distance
      */
     private static List<String> suggestCandidates(Script script, Dictionary dictionary) {
@@ -390,8 +850,12 @@ public final class JockaigneProcessor {
                 continue;
             }
 
-            // Finds the closest dictionary entry to the token using Levenshtein distance
-            Suggestion suggestion = findClosest(token, dictionaryEntries);
+            // Tries the cheap OCR confusion expansions first (a handful of hash lookups),
+            // and only falls back to the Levenshtein scan over the whole dictionary if none of them is a known word
+            Suggestion suggestion = findConfusionCandidate(token, dictionaryLookup);
+            if (suggestion == null) {
+                suggestion = findClosest(token, dictionaryEntries);
+            }
 
             // If we dont find a suggestion, we skip to the next token
             if (suggestion != null) {
@@ -409,17 +873,61 @@ public final class JockaigneProcessor {
 
     // Checks if a token is a valid candidate for suggestion (not too short/long, not already a known word, looks like a word)
     private static boolean isCandidateToken(Script token, Set<Script> dictionary) {
+        if (!isWordToken(token)) {
+            return false;
+        }
+        boolean isKnownWord = dictionary.contains(token.toLower(Locale.ROOT));
+        return !isKnownWord;
+    }
+
+    // Checks if a token looks like a word: 3 to 20 characters forming an identifier, so "qu1ck" counts but "2024" does not
+    private static boolean isWordToken(Script token) {
         int tokenLength = token.extent();
         if (tokenLength < 3 || tokenLength > 20) {
             return false;
         }
-        Script lower = token.toLower(Locale.ROOT);
-        boolean isKnownWord = dictionary.contains(lower);
-        if (isKnownWord) {
-            return false;
+        return token.isIdentifier(true);
+    }
+
+    /**
+     * Expands a token through the weighted OCR confusion table and returns the cheapest expansion that is a dictionary
+     * word. The search is best-first by accumulated weight and substitutes left to right, so every combination of
+     * substitutions is generated once; it is bounded by CONFUSION_MAX_COST and CONFUSION_MAX_EXPANSIONS.
+     * e.g. "govemment" (after the blind rn -> m rule) becomes "government", "hell0" becomes "hello"
+     */
+    private static Suggestion findConfusionCandidate(Script token, Set<Script> dictionary) {
+        String word = token.toLower(Locale.ROOT).toString();
+        PriorityQueue<ConfusionExpansion> queue = new PriorityQueue<>(
+            Comparator.comparingDouble(ConfusionExpansion::cost).thenComparingInt(ConfusionExpansion::sequence));
+        int sequence = 0;
+        queue.add(new ConfusionExpansion(word, 0.0, 0, 0, sequence++));
+
+        int expanded = 0;
+        while (!queue.isEmpty() && expanded < CONFUSION_MAX_EXPANSIONS) {
+            ConfusionExpansion current = queue.poll();
+            expanded++;
+
+            // The first known word popped is the cheapest one
+            // The lookup key is an unpooled Script: Script.of would intern every junk expansion for the life of the JVM
+            if (current.substitutions() > 0 && dictionary.contains(new Script(current.text()))) {
+                return new Suggestion(current.text(), current.substitutions());
+            }
+
+            String text = current.text();
+            for (int position = current.nextPosition(); position < text.length(); position++) {
+                for (Confusion confusion : OCR_CONFUSIONS) {
+                    double cost = current.cost() + confusion.weight();
+                    if (cost > CONFUSION_MAX_COST || !text.startsWith(confusion.seen(), position)) {
+                        continue;
+                    }
+                    String replaced = text.substring(0, position) + confusion.meant()
+                        + text.substring(position + confusion.seen().length());
+                    int next = position + confusion.meant().length();
+                    queue.add(new ConfusionExpansion(replaced, cost, next, current.substitutions() + 1, sequence++));
+                }
+            }
         }
-        // Only suggests for tokens that look like identifiers (words)
-        return lower.isIdentifier(true);
+        return null;
     }
 
     // Finds the closest dictionary entry to the token using Levenshtein distance, with additional heuristics
@@ -606,50 +1114,734 @@ public final class JockaigneProcessor {
         return null;
     }
 
+    // ---------------------------------------------------------------------
+    // Worker pool
+    // ---------------------------------------------------------------------
+
+    /**
+     * Dispatches parsed requests from the stdin reader to a work-stealing pool of workers. All workers share the static
+     * dictionaries, so several camera feeds or replays scale across cores inside a single JVM.
+     * Responses are written in completion order (tagged with the request id) or, with --ordered, in request order.
+     * Requests carrying the same meta.session are processed and written one after another, so a feed never sees its
+     * frames reordered even in completion order mode.
+     */
+    private static final class ProcessorPool implements AutoCloseable {
+        private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+        private final ExecutorService workers;
+        private final boolean ordered;
+        private final PrintStream out;
+
+        // Bounds the requests in flight so a fast producer cannot queue up unbounded work; drained on close
+        private final Semaphore inFlight;
+        private final int capacity;
+
+        // Last pending write per session, used to chain the next request of that session
+        private final Map<String, CompletableFuture<Void>> sessionTails = new ConcurrentHashMap<>();
+
+        // Last pending write overall, only used in ordered mode (touched by the reader thread only)
+        private CompletableFuture<Void> outputTail = DONE;
+
+        // Results of recently seen frames (slides repeat a lot) and the counters behind the batch summary
+        private final ResultCache cache = new ResultCache((long) (Runtime.getRuntime().maxMemory() * RESULT_CACHE_HEAP_SHARE));
+        private final PoolStats stats = new PoolStats();
+
+        ProcessorPool(int workerCount, boolean ordered, PrintStream out) {
+            this.workers = Executors.newWorkStealingPool(workerCount);
+            this.ordered = ordered;
+            this.out = out;
+            this.capacity = workerCount * 4;
+            this.inFlight = new Semaphore(capacity);
+            watchMemoryPressure(cache::shed);
+        }
+
+        ResultCache cache() {
+            return cache;
+        }
+
+        PoolStats stats() {
+            return stats;
+        }
+
+        // Queues one request, blocking the reader while the pool is saturated
+        void submit(InputPayload payload) {
+            inFlight.acquireUninterruptibly();
+
+            String session = payload.session();
+            if (session == null) {
+                dispatch(payload, DONE);
+                return;
+            }
+
+            CompletableFuture<Void> written = sessionTails.compute(session,
+                (key, tail) -> dispatch(payload, tail != null ? tail : DONE));
+            written.whenComplete((ignored, error) -> sessionTails.remove(session, written));
+        }
+
+        // Runs the request once its predecessor (same session) has been written, then writes the response
+        private CompletableFuture<Void> dispatch(InputPayload payload, CompletableFuture<Void> predecessor) {
+            CompletableFuture<Response> response = predecessor
+                .exceptionally(error -> null)
+                .thenApplyAsync(ignored -> respond(payload), workers)
+                .exceptionally(error -> respondToFailure(payload, error));
+
+            CompletableFuture<Void> written;
+            if (ordered) {
+                written = outputTail.exceptionally(error -> null).thenCombine(response, (ignored, line) -> {
+                    write(line);
+                    return null;
+                });
+                outputTail = written;
+            } else {
+                written = response.thenAccept(this::write);
+            }
+
+            written.whenComplete((ignored, error) -> inFlight.release());
+            return written;
+        }
+
+        // Processes one request on a worker; a failure only affects this request and yields the untouched text
+        private Response respond(InputPayload payload) {
+            if (payload.command() != null) {
+                return respondToCommand(payload);
+            }
+
+            String text = payload.text() != null ? payload.text() : "";
+            long start = System.nanoTime();
+            boolean failed = false;
+
+            Double confidence = payload.confidence();
+            CacheKey key = new CacheKey(text, payload.languages(), confidence != null ? isConfident(confidence) : null);
+            String json;
+            try {
+                CorrectionResult result = cache.get(key);
+                if (result == null) {
+                    result = process(payload);
+                    json = result.toJson(payload.id());
+                    cache.put(key, result);
+                } else {
+                    json = result.toJson(payload.id());
+                }
+            } catch (RuntimeException ex) {
+                System.err.println("[JockaigneProcessor] Request failed: " + ex);
+                json = CorrectionResult.fallback(text).toJson(payload.id());
+                failed = true;
+            }
+
+            return new Response(json, true, text.length(), System.nanoTime() - start, failed);
+        }
+
+        // Last resort when respond itself failed (e.g. an Error on the worker): still answers the request once
+        private Response respondToFailure(InputPayload payload, Throwable error) {
+            System.err.println("[JockaigneProcessor] Request failed: " + error);
+            String text = payload.text() != null ? payload.text() : "";
+            return new Response(CorrectionResult.fallback(text).toJson(payload.id()), true, text.length(), 0, true);
+        }
+
+        /**
+         * Answers control requests such as {"command": "stats"} instead of correcting text.
+         * stats reports heap usage, GC activity, cache occupancy against its budget and request counters.
+         */
+        private Response respondToCommand(InputPayload payload) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            if (payload.id() != null) {
+                response.put("id", payload.id());
+            }
+
+            if (payload.command().equals("stats")) {
+                Map<String, Object> requests = new LinkedHashMap<>();
+                requests.put("processed", stats.requests());
+                requests.put("failures", stats.failures());
+
+                Map<String, Object> statistics = new LinkedHashMap<>(memoryStats());
+                statistics.put("cache", cache.toMap());
+                statistics.put("requests", requests);
+                response.put("stats", statistics);
+            } else {
+                response.put("error", "Unknown command: " + payload.command());
+            }
+            return new Response(new DataNote(response).asJSON(false), false, 0, 0, false);
+        }
+
+        // Writes one response line; synchronized so lines from different workers never interleave
+        // The request only counts in the stats once its line has actually been written
+        private synchronized void write(Response response) {
+            out.println(response.json());
+            out.flush();
+            if (response.counted() && !out.checkError()) {
+                stats.record(response.characters(), response.elapsedNanos(), response.failed());
+            }
+        }
+
+        // Waits for every queued request to be written, then stops the workers
+        @Override
+        public void close() {
+            inFlight.acquireUninterruptibly(capacity);
+            workers.shutdown();
+            out.flush();
+        }
+    }
+
+    /**
+     * LRU cache of correction results keyed by text and declared languages. Lecture feeds and archives contain long
+     * runs of identical frames, which are then answered without running the pipeline again.
+     * The cache is bounded by an estimated byte budget (a share of the max heap), holds its results through soft
+     * references so the GC can reclaim them before running out of memory, and is shed completely when the old
+     * generation stays full after a collection (see watchMemoryPressure).
+     */
+    private static final class ResultCache {
+        // Rough per-entry overhead: key and result records, diagnostics maps, suggestion list
+        private static final long ENTRY_OVERHEAD_BYTES = 1024;
+
+        private final long budgetBytes;
+        private final LinkedHashMap<CacheKey, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long estimatedBytes;
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder sheds = new LongAdder();
+
+        ResultCache(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        CorrectionResult get(CacheKey key) {
+            CorrectionResult result = null;
+            synchronized (entries) {
+                CachedResult cached = entries.get(key);
+                if (cached != null) {
+                    result = cached.result().get();
+                    // Cleared by the GC: drop the stale entry
+                    if (result == null) {
+                        remove(key);
+                    }
+                }
+            }
+            (result != null ? hits : misses).increment();
+            return result;
+        }
+
+        void put(CacheKey key, CorrectionResult result) {
+            // Text is held three times (key, original, cleaned), two bytes per char at most
+            long size = ENTRY_OVERHEAD_BYTES + 6L * key.text().length();
+            if (size > budgetBytes) {
+                return;
+            }
+
+            synchronized (entries) {
+                remove(key);
+                entries.put(key, new CachedResult(new SoftReference<>(result), size));
+                estimatedBytes += size;
+
+                // Evicts least recently used entries until the cache fits its budget again
+                Iterator<Map.Entry<CacheKey, CachedResult>> eldest = entries.entrySet().iterator();
+                while (estimatedBytes > budgetBytes && eldest.hasNext()) {
+                    estimatedBytes -= eldest.next().getValue().bytes();
+                    eldest.remove();
+                }
+            }
+        }
+
+        // Drops every entry; called when the heap is under pressure
+        void shed() {
+            int dropped;
+            synchronized (entries) {
+                dropped = entries.size();
+                entries.clear();
+                estimatedBytes = 0;
+            }
+            if (dropped > 0) {
+                sheds.increment();
+                System.err.println("[JockaigneProcessor] Heap under pressure, dropped " + dropped + " cached results");
+            }
+        }
+
+        // Removes one entry and its bytes (caller holds the lock)
+        private void remove(CacheKey key) {
+            CachedResult removed = entries.remove(key);
+            if (removed != null) {
+                estimatedBytes -= removed.bytes();
+            }
+        }
+
+        long hits() {
+            return hits.sum();
+        }
+
+        long misses() {
+            return misses.sum();
+        }
+
+        // Converts the cache occupancy and counters to a map for the stats command
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            synchronized (entries) {
+                map.put("entries", entries.size());
+                map.put("estimatedBytes", estimatedBytes);
+            }
+            map.put("budgetBytes", budgetBytes);
+            map.put("hits", hits());
+            map.put("misses", misses());
+            map.put("sheds", sheds.sum());
+            return map;
+        }
+    }
+
+    /**
+     * Request counters and a latency histogram, updated lock-free by the workers.
+     */
+    private static final class PoolStats {
+        // Upper bounds (exclusive, in milliseconds) of the latency buckets; the last bucket collects everything slower
+        private static final long[] LATENCY_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder characters = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BOUNDS_MS.length + 1);
+
+        void record(int length, long elapsedNanos, boolean failed) {
+            requests.increment();
+            characters.add(length);
+            if (failed) {
+                failures.increment();
+            }
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            int bucket = 0;
+            while (bucket < LATENCY_BOUNDS_MS.length && elapsedMillis >= LATENCY_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            latencyBuckets.incrementAndGet(bucket);
+        }
+
+        long requests() {
+            return requests.sum();
+        }
+
+        long characters() {
+            return characters.sum();
+        }
+
+        long failures() {
+            return failures.sum();
+        }
+
+        // Renders the non-empty histogram buckets, e.g. "<1ms: 812, <2ms: 97, >=1000ms: 1"
+        String latencyHistogram() {
+            List<String> parts = new ArrayList<>();
+            for (int i = 0; i < latencyBuckets.length(); i++) {
+                long count = latencyBuckets.get(i);
+                if (count == 0) {
+                    continue;
+                }
+                String label = i < LATENCY_BOUNDS_MS.length
+                    ? "<" + LATENCY_BOUNDS_MS[i] + "ms"
+                    : ">=" + LATENCY_BOUNDS_MS[LATENCY_BOUNDS_MS.length - 1] + "ms";
+                parts.add(label + ": " + count);
+            }
+            return parts.isEmpty() ? "-" : String.join(", ", parts);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Memory budget
+    // ---------------------------------------------------------------------
+
+    /**
+     * Calls onPressure whenever a collection leaves the old generation above MEMORY_PRESSURE_THRESHOLD of its max.
+     * Usage after a GC only counts live data, so this does not fire on garbage that is about to be collected anyway.
+     * Eden and survivor spaces also support collection thresholds, but a survivor space is routinely nearly full
+     * after a minor GC; the old generation is the only heap pool that also supports a usage threshold (Serial,
+     * Parallel and G1 alike), which is how it is told apart.
+     */
+    private static void watchMemoryPressure(Runnable onPressure) {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+                    && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * MEMORY_PRESSURE_THRESHOLD));
+            }
+        }
+
+        NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener((notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                onPressure.run();
+            }
+        }, null, null);
+    }
+
+    /**
+     * Heap usage and per-collector GC counters of this JVM. collectionTimeMs is the accumulated time reported by each
+     * collector. It only equals pause time for stop-the-world collectors such as the serial collector the Electron
+     * launcher selects; under G1 (the default for hand-started batch runs) the "G1 Concurrent GC" entry counts
+     * concurrent work that does not pause the workers.
+     */
+    private static Map<String, Object> memoryStats() {
+        MemoryUsage heapUsage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("usedBytes", heapUsage.getUsed());
+        heap.put("committedBytes", heapUsage.getCommitted());
+        heap.put("maxBytes", heapUsage.getMax());
+
+        Map<String, Object> collectors = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            Map<String, Object> counters = new LinkedHashMap<>();
+            counters.put("collections", collector.getCollectionCount());
+            counters.put("collectionTimeMs", collector.getCollectionTime());
+            collectors.put(collector.getName(), counters);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("heap", heap);
+        stats.put("gc", collectors);
+        int pooledScripts = scriptPoolSize();
+        if (pooledScripts >= 0) {
+            stats.put("scriptPool", pooledScripts);
+        }
+        return stats;
+    }
+
+    /**
+     * Number of Scripts interned in Jockaigne's static pool (Script.of), or -1 if it cannot be read. The pool holds its
+     * entries strongly and is not covered by the cache budget, so it should stay flat once the dictionaries are loaded;
+     * growth with distinct input means a per-frame Script.of slipped in. Jockaigne has no accessor for it, hence the
+     * reflective read.
+     */
+    private static int scriptPoolSize() {
+        try {
+            Field poolField = Script.class.getDeclaredField("ScriPool");
+            poolField.setAccessible(true);
+            return ((Map<?, ?>) poolField.get(null)).size();
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return -1;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Batch mode
+    // ---------------------------------------------------------------------
+
+    /**
+     * Reprocesses archived OCR output: --batch points at a directory or a JSONL file, results are appended to the
+     * --output JSONL file through the same worker pool as the stdin loop.
+     *   - *.txt files are single OCR dumps (memory-mapped), their id is the path relative to the batch root
+     *   - *.jsonl files hold one request per line (streamed), their id is "path:line"
+     * With --resume, ids already present in the output are skipped, so an interrupted run continues where it stopped;
+     * requests that failed (tier "fallback") are retried and the later line for an id wins.
+     * A throughput, latency and cache summary is printed at the end.
+     */
+    private static void runBatch(ProcessorOptions options) throws IOException {
+        Path input = options.batchInput();
+        Path output = options.batchOutput();
+        if (!Files.exists(input)) {
+            throw new IOException("Batch input not found: " + input);
+        }
+        if (Files.exists(output) && Files.isSameFile(input, output)) {
+            throw new IOException("Batch output must not be the batch input: " + output);
+        }
+
+        // Picks up the ids of a previous run, otherwise starts with an empty output file
+        Set<String> completed = options.resume() ? readCompletedIds(output) : Set.of();
+        OpenOption[] openOptions = options.resume()
+            ? new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.APPEND }
+            : new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE };
+
+        long skipped = 0;
+        long start = System.nanoTime();
+        ProcessorPool pool;
+
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(output, openOptions)),
+                 false, StandardCharsets.UTF_8);
+             ProcessorPool batchPool = new ProcessorPool(options.workers(), options.ordered(), out)) {
+            pool = batchPool;
+            for (Path file : listBatchFiles(input, output)) {
+                String relative = Files.isDirectory(input) ? input.relativize(file).toString() : file.getFileName().toString();
+                skipped += relative.endsWith(".jsonl")
+                    ? submitJsonLines(file, relative, options.languages(), completed, batchPool)
+                    : submitTextDump(file, relative, options.languages(), completed, batchPool);
+            }
+        }
+
+        printBatchSummary(pool, skipped, System.nanoTime() - start);
+    }
+
+    /**
+     * Collects the batch inputs in a stable order: the file itself, or all *.txt and *.jsonl files below a directory.
+     * The output file (already created by the caller) is left out, otherwise an output inside the batch directory
+     * would be read back as input while it is being appended to.
+     */
+    private static List<Path> listBatchFiles(Path input, Path output) throws IOException {
+        if (!Files.isDirectory(input)) {
+            return List.of(input);
+        }
+
+        Path outputFile = output.toRealPath();
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(input)) {
+            for (Path path : walk.sorted().toList()) {
+                String name = path.getFileName().toString();
+                if (Files.isRegularFile(path) && (name.endsWith(".txt") || name.endsWith(".jsonl"))
+                        && !path.toRealPath().equals(outputFile)) {
+                    files.add(path);
+                }
+            }
+        }
+        return files;
+    }
+
+    // Submits one memory-mapped OCR dump; returns 1 if it was skipped because it is already in the output
+    private static long submitTextDump(Path file, String id, List<String> languages, Set<String> completed,
+                                       ProcessorPool pool) throws IOException {
+        if (completed.contains(id)) {
+            return 1;
+        }
+        pool.submit(new InputPayload(readMapped(file), languages, id, null, null, null));
+        return 0;
+    }
+
+    // Streams a JSONL file line by line; returns the number of lines skipped because they are already in the output
+    private static long submitJsonLines(Path file, String relative, List<String> languages, Set<String> completed,
+                                        ProcessorPool pool) throws IOException {
+        long skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String id = relative + ":" + lineNumber;
+                if (completed.contains(id)) {
+                    skipped++;
+                    continue;
+                }
+
+                // Archived lines keep their own languages; the batch default only fills in missing ones
+                InputPayload parsed = parsePayload(line);
+                List<String> effectiveLanguages = parsed.languages().isEmpty() ? languages : parsed.languages();
+                pool.submit(new InputPayload(parsed.text(), effectiveLanguages, id, null, parsed.confidence(), null));
+            }
+        }
+        return skipped;
+    }
+
+    // Reads a whole OCR dump through a read-only memory mapping
+    private static String readMapped(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return "";
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("OCR dump too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    }
+
+    /**
+     * Collects the ids of all complete, successful lines of a previous output file. A line cut off by the interruption
+     * is truncated away first, so the appended results start on a clean line. Fallback lines are not collected, so
+     * their requests are processed again and the new line follows the fallback one.
+     */
+    private static Set<String> readCompletedIds(Path output) throws IOException {
+        if (!Files.exists(output)) {
+            return Set.of();
+        }
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer single = ByteBuffer.allocate(1);
+            while (end > 0) {
+                single.clear();
+                channel.read(single, end - 1);
+                if (single.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+            channel.truncate(end);
+        }
+
+        Set<String> completed = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(output, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    DataNote note = DataNote.byJSON(line);
+                    Object id = note != null ? extractId(note) : null;
+                    // Failed requests were answered with a fallback line; they are retried on resume
+                    DataNote tier = note != null ? note.at("tier") : null;
+                    boolean fallback = tier != null && Tier.FALLBACK.label().equals(tier.asString(null));
+                    if (id != null && !fallback) {
+                        completed.add(id.toString());
+                    }
+                } catch (RuntimeException ignored) {
+                }
+            }
+        }
+        return completed;
+    }
+
+    // Prints throughput, latency histogram, cache hit rate and heap/GC figures of a finished batch run
+    private static void printBatchSummary(ProcessorPool pool, long skipped, long elapsedNanos) {
+        PoolStats stats = pool.stats();
+        ResultCache cache = pool.cache();
+        double seconds = Math.max(elapsedNanos / 1e9, 1e-9);
+        long lookups = cache.hits() + cache.misses();
+        double hitRate = lookups == 0 ? 0.0 : 100.0 * cache.hits() / lookups;
+
+        System.out.printf(Locale.ROOT, "[JockaigneProcessor] Batch finished: %d processed, %d skipped (resume), %d failed in %.1f s%n",
+            stats.requests(), skipped, stats.failures(), seconds);
+        System.out.printf(Locale.ROOT, "  throughput: %.1f requests/s, %.1f k chars/s%n",
+            stats.requests() / seconds, stats.characters() / seconds / 1000.0);
+        System.out.println("  latency:    " + stats.latencyHistogram());
+        System.out.printf(Locale.ROOT, "  cache:      %d hits, %d misses (%.1f%% hit rate)%n",
+            cache.hits(), cache.misses(), hitRate);
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long collections = 0;
+        long collectionMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(collector.getCollectionCount(), 0);
+            collectionMillis += Math.max(collector.getCollectionTime(), 0);
+        }
+        System.out.printf(Locale.ROOT, "  memory:     %.1f MB used of %.1f MB max, %d collections, %d ms collection time%n",
+            heap.getUsed() / 1048576.0, heap.getMax() / 1048576.0, collections, collectionMillis);
+    }
+
     // ---------------------------------------------------------------------
     // Records used throughout the pipeline
-    //   - InputPayload bundles the incoming OCR text with any declared languages so the parse step can hand a single object downstream
-    //   - Suggestion captures the chosen dictionary word plus its Levenshtein distance; it gives the lookup loop a structured return instead of juggling parallel variables
+    //   - InputPayload bundles the incoming OCR text with any declared languages, the request id, session and OCR confidence so the parse step can hand a single object downstream
+    //   - Suggestion captures the chosen dictionary word plus its Levenshtein distance (or number of confusion substitutions); it gives the lookup loop a structured return instead of juggling parallel variables
+    //   - Confusion and ConfusionExpansion describe the OCR confusion table and the states of its best-first search
     //   - Dictionary stores the language’s entries and a matching lookup set so membership can be tested quickly and still iterate in insertion order
-    //   - CorrectionResult carries the cleaned text, the original Script, diagnostics, and suggestions, and exposes toJson() to serialize the response with the DataNote
+    //   - CorrectionResult carries the cleaned text, the original Script, diagnostics, suggestions and the quality check, and exposes toJson() to serialize the response with the DataNote
+    //   - Tier and QualityCheck record which processing tier the quality gate picked and why
     //   - Diagnostics groups all the metrics we calculate (similarity, editDistance, ratios, diversity, tallies)
     //   - RatioStats is a helper record that computes printable and ASCII ratios once and passes them back to Diagnostics
+    //   - Response carries a serialized line from a worker to the writer along with its request measurements
+    //   - CacheKey identifies a cached CorrectionResult by text and languages, CachedResult holds it softly with its budgeted size
+    //   - ProcessorOptions holds the command line switches (worker count, ordered output, batch mode)
     //
     // https://www.baeldung.com/java-record-keyword
     // ---------------------------------------------------------------------
 
-    private record InputPayload(String text, List<String> languages) {
+    private record InputPayload(String text, List<String> languages, Object id, String session, Double confidence,
+                                String command) {
+        // Payload for raw (non-JSON) lines: no languages, no id, no session, no confidence, no command
+        static InputPayload plain(String text) {
+            return new InputPayload(text, List.of(), null, null, null, null);
+        }
+    }
+
+    // Lookbehind/lookahead condition of an ASCII fast path rule, evaluated at the index of the candidate byte
+    @FunctionalInterface
+    private interface AsciiContext {
+        boolean test(byte[] text, int index);
     }
 
     private record Suggestion(String word, int distance) {
     }
 
+    // One OCR confusion: text as seen by the OCR, the likely intended text, and how cheap the substitution is
+    private record Confusion(String seen, String meant, double weight) {
+    }
+
+    // A pending state of the confusion search; nextPosition keeps substitutions left to right and non-overlapping
+    private record ConfusionExpansion(String text, double cost, int nextPosition, int substitutions, int sequence) {
+    }
+
+    // One serialized response line and what PoolStats records for it (commands are not counted)
+    private record Response(String json, boolean counted, int characters, long elapsedNanos, boolean failed) {
+    }
+
+    // Identifies a correction result: the pipeline output only depends on the text, the declared languages and
+    // whether the OCR confidence clears the quality gate threshold (null if no confidence was sent)
+    private record CacheKey(String text, List<String> languages, Boolean confident) {
+    }
+
+    // A cached result behind a soft reference, with the bytes it was accounted for in the cache budget
+    private record CachedResult(SoftReference<CorrectionResult> result, long bytes) {
+    }
+
+    // Processing tier reported in the response
+    private enum Tier {
+        FAST, FULL, FALLBACK;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Outcome of the quality gate: the tier, why it was chosen, and the measures computed on the way (null if the
+     * gate decided before computing them).
+     */
+    private record QualityCheck(Tier tier, String reason, Double printableRatio, Double asciiRatio,
+                                Double dictionaryHitRate) {
+        static QualityCheck full(String reason) {
+            return new QualityCheck(Tier.FULL, reason, null, null, null);
+        }
+
+        // Converts the check to a map for JSON serialization, leaving out measures that were not computed
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("reason", reason);
+            if (printableRatio != null) {
+                map.put("printableRatio", printableRatio);
+            }
+            if (asciiRatio != null) {
+                map.put("asciiRatio", asciiRatio);
+            }
+            if (dictionaryHitRate != null) {
+                map.put("dictionaryHitRate", dictionaryHitRate);
+            }
+            return map;
+        }
+    }
+
     private record Dictionary(List<Script> entries, Set<Script> lookup) {
+        // Builds the lookup set straight from the entries; both share the same Script instances
         Dictionary(List<Script> entries) {
-            this(List.copyOf(entries), new LinkedHashSet<>(entries));
+            this(entries, Set.copyOf(entries));
         }
 
-        Dictionary(List<Script> entries, Set<Script> lookup) {
-            this.entries = List.copyOf(entries);
-            this.lookup = Set.copyOf(lookup);
+        // copyOf returns already immutable collections as they are, so the words are not copied a second time
+        Dictionary {
+            entries = List.copyOf(entries);
+            lookup = Set.copyOf(lookup);
         }
     }
 
     /**
      * CorrectionResult wraps the cleaned text, the original payload, and all diagnostics in one immutable bundle.
      */
-    private record CorrectionResult(String cleaned, String original, Diagnostics diagnostics, List<String> suggestions) {
+    private record CorrectionResult(String cleaned, String original, Diagnostics diagnostics, List<String> suggestions,
+                                    QualityCheck quality) {
         static CorrectionResult fallback(String text) {
             Diagnostics emptyDiagnostics = Diagnostics.empty();
-            return new CorrectionResult(text, text, emptyDiagnostics, List.of());
+            QualityCheck unchecked = new QualityCheck(Tier.FALLBACK, "unprocessable", null, null, null);
+            return new CorrectionResult(text, text, emptyDiagnostics, List.of(), unchecked);
         }
 
-        // Constructs the JSON representation of the correction result
-        String toJson() {
+        // Constructs the JSON representation of the correction result, tagged with the request id if one was sent
+        String toJson(Object id) {
             Map<String, Object> payload = new LinkedHashMap<>();
+            if (id != null) {
+                payload.put("id", id);
+            }
             payload.put("text", cleaned);
             payload.put("original", original);
-            payload.put("diagnostics", diagnostics.toMap());
+            payload.put("tier", quality.tier().label());
+            payload.put("quality", quality.toMap());
+            // The fast tier skips the diagnostics entirely
+            if (diagnostics != null) {
+                payload.put("diagnostics", diagnostics.toMap());
+            }
             payload.put("suggestions", suggestions);
 
             // Serializes the payload via DataNote.
@@ -666,7 +1858,7 @@ public final class JockaigneProcessor {
         int editDistance,
         double printableRatio,
         double asciiRatio,
-        double diversity,
+        Double diversity,
         Map<String, Integer> topCharacters,
         Map<String, Integer> topBigrams
     ) {
@@ -674,38 +1866,47 @@ public final class JockaigneProcessor {
             double similarity = cleaned.similarity(original, Similitude.Levenshtein);
             int distance = cleaned.distance(original, Distance.Levenshtein);
             RatioStats ratios = RatioStats.from(cleaned);
-            double diversity = computeDiversity(cleaned);
+            Double diversity = computeDiversity(cleaned);
             Map<String, Integer> characters = tallyTopCharacters(cleaned, 5);
             Map<String, Integer> bigrams = tallyTopBigrams(cleaned, 5);
 
             return new Diagnostics(similarity, distance, ratios.printableRatio(), ratios.asciiRatio(), diversity, characters, bigrams);
         }
 
-        // Returns an empty Diagnostics instance with default values
+        // Returns an empty Diagnostics instance with default values (no diversity)
         static Diagnostics empty() {
-            return new Diagnostics(1.0, 0, 1.0, 1.0, Double.NaN, Map.of(), Map.of());
+            return new Diagnostics(1.0, 0, 1.0, 1.0, null, Map.of(), Map.of());
         }
 
-        // Converts the diagnostics to a map for JSON serialization
+        // Converts the diagnostics to a map for JSON serialization; DataNote rejects NaN, so undefined measures are left out
         Map<String, Object> toMap() {
             Map<String, Object> map = new LinkedHashMap<>();
-            map.put("similarity", similarity);
+            putFinite(map, "similarity", similarity);
             map.put("editDistance", editDistance);
-            map.put("printableRatio", printableRatio);
-            map.put("asciiRatio", asciiRatio);
-            map.put("diversity", diversity);
+            putFinite(map, "printableRatio", printableRatio);
+            putFinite(map, "asciiRatio", asciiRatio);
+            if (diversity != null) {
+                putFinite(map, "diversity", diversity);
+            }
             map.put("topCharacters", topCharacters);
             map.put("topBigrams", topBigrams);
             return map;
         }
 
-        // Calculates Shannon diversity of characters in the script
-        private static double computeDiversity(Script script) {
+        private static void putFinite(Map<String, Object> map, String key, double value) {
+            if (Double.isFinite(value)) {
+                map.put(key, value);
+            }
+        }
+
+        // Calculates Shannon diversity of characters in the script; null where it is undefined (empty or single character)
+        private static Double computeDiversity(Script script) {
             try {
                 List<Charact> chars = script.toList();
-                return chars.isEmpty() ? Double.NaN : Mathx.diversity(chars, Diversity.Shannon);
+                double diversity = chars.isEmpty() ? Double.NaN : Mathx.diversity(chars, Diversity.Shannon);
+                return Double.isFinite(diversity) ? diversity : null;
             } catch (RuntimeException ex) {
-                return Double.NaN;
+                return null;
             }
         }
 
@@ -752,6 +1953,86 @@ public final class JockaigneProcessor {
         }
     }
 
+    /**
+     * Command line switches of the processor:
+     *   --workers=N         number of pool workers (default: available processors)
+     *   --ordered           write responses in request order instead of completion order
+     *   --batch=PATH        process a directory of OCR dumps or a JSONL file instead of stdin
+     *   --output=PATH       JSONL file receiving the batch results (required with --batch)
+     *   --resume            keep the existing output and skip inputs it already contains
+     *   --languages=a,b     languages for batch inputs that do not declare their own
+     *   --check-ascii[=N]   compare the ASCII fast path with the Script pipeline on N random strings and exit
+     */
+    private record ProcessorOptions(int workers, boolean ordered, Path batchInput, Path batchOutput, boolean resume,
+                                    List<String> languages, int asciiCheckSamples) {
+        static ProcessorOptions parse(String[] args) {
+            int workers = Runtime.getRuntime().availableProcessors();
+            boolean ordered = false;
+            Path batchInput = null;
+            Path batchOutput = null;
+            boolean resume = false;
+            List<String> languages = List.of();
+            int asciiCheckSamples = 0;
+
+            for (String arg : args) {
+                if (arg.equals("--ordered")) {
+                    ordered = true;
+                } else if (arg.equals("--resume")) {
+                    resume = true;
+                } else if (arg.startsWith("--workers=")) {
+                    workers = parsePositive(arg, arg.substring("--workers=".length()));
+                } else if (arg.startsWith("--batch=")) {
+                    batchInput = Path.of(arg.substring("--batch=".length()));
+                } else if (arg.startsWith("--output=")) {
+                    batchOutput = Path.of(arg.substring("--output=".length()));
+                } else if (arg.equals("--check-ascii")) {
+                    asciiCheckSamples = ASCII_CHECK_SAMPLES;
+                } else if (arg.startsWith("--check-ascii=")) {
+                    asciiCheckSamples = parsePositive(arg, arg.substring("--check-ascii=".length()));
+                } else if (arg.startsWith("--languages=")) {
+                    languages = parseLanguages(arg.substring("--languages=".length()));
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+
+            if (batchInput != null && batchOutput == null) {
+                throw new IllegalArgumentException("--batch requires --output=PATH");
+            }
+            if (batchInput == null && (batchOutput != null || resume)) {
+                throw new IllegalArgumentException("--output and --resume are only valid with --batch");
+            }
+            if (asciiCheckSamples > 0 && batchInput != null) {
+                throw new IllegalArgumentException("--check-ascii cannot be combined with --batch");
+            }
+            return new ProcessorOptions(workers, ordered, batchInput, batchOutput, resume, languages, asciiCheckSamples);
+        }
+
+        // Splits a comma separated language list, trimming entries and dropping empty ones like extractLanguages
+        private static List<String> parseLanguages(String value) {
+            List<String> languages = new ArrayList<>();
+            for (String entry : value.split(",")) {
+                String trimmed = entry.trim();
+                if (!trimmed.isEmpty()) {
+                    languages.add(trimmed);
+                }
+            }
+            return List.copyOf(languages);
+        }
+
+        // Parses a strictly positive integer option value
+        private static int parsePositive(String arg, String value) {
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed > 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException ignored) {
+            }
+            throw new IllegalArgumentException("Expected a positive number: " + arg);
+        }
+    }
+
     // Helper record to compute and store printable and ASCII character ratios
     private record RatioStats(double printableRatio, double asciiRatio) {
 
@@ -14,6 +14,8 @@ const isLinux = process.platform === 'linux';
 let correctionEnabled = true;
 // Timeout for the OCR correction process (in milliseconds)
 const CORRECTION_TIMEOUT_MS = 5000;
+// Max heap of the Java helper; its result cache is sized as a share of this budget
+const JOCKAIGNE_MAX_HEAP = process.env.JOCKAIGNE_MAX_HEAP || '256m';
 
 // Resolves the Jockaigne runtime. We bundle both jars with the app.
 // Helper
@@ -190,9 +192,10 @@ async function runJockaigne(text, meta = {}) {
   // Returns a promise that resolves when the child process completes.
   return new Promise(resolve => {
     // Launches the packaged processor jar with the bundled library on the classpath.
+    // The heap is capped and the serial collector keeps the helper's footprint small next to Electron.
     const child = spawn(
       runtime.exec,
-      ['-cp', runtime.classpath, runtime.mainClass],
+      [`-Xmx${JOCKAIGNE_MAX_HEAP}`, '-XX:+UseSerialGC', '-cp', runtime.classpath, runtime.mainClass],
       {
         stdio: ['pipe', 'pipe', 'pipe'],
         env: {
@@ -265,6 +268,9 @@ async function runJockaigne(text, meta = {}) {
           text: parsed.text,
           original: parsed.original ?? text,
           corrected: parsed.text !== text,
+          // Processing tier picked by the processor's quality gate ('fast' skips suggestions and diagnostics)
+          tier: parsed.tier ?? null,
+          quality: parsed.quality ?? null,
           diagnostics: parsed.diagnostics ?? null,
           suggestions: Array.isArray(parsed.suggestions)
             ? parsed.suggestions